@@ -12,8 +12,28 @@ repositories {
 dependencies {
     testImplementation(platform("org.junit:junit-bom:5.10.0"))
     testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 tasks.test {
-    useJUnitPlatform()
+    useJUnitPlatform {
+        excludeTags("stress")
+    }
+}
+
+val stressTest by tasks.registering(Test::class) {
+    description = "Runs concurrency stress tests and the scheduler latency harness."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("stress")
+    }
+    listOf("stress.iterations", "latency.rate", "latency.warmup", "latency.requests", "latency.p99BudgetMicros")
+        .forEach { name -> providers.gradleProperty(name).orNull?.let { systemProperty(name, it) } }
+    testLogging {
+        showStandardStreams = true
+    }
+    outputs.upToDateWhen { false }
+    shouldRunAfter(tasks.test)
 }
\ No newline at end of file
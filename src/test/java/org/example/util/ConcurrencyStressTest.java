@@ -0,0 +1,345 @@
+package org.example.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Стресс-тесты гонок в операторах. Запускаются задачей {@code stressTest}.
+ * <p>
+ * Запрещенными считаются исходы, нарушающие контракт Observer: сигналы не по порядку,
+ * одновременные вызовы наблюдателя, onComplete раньше элементов или больше одного раза,
+ * ошибки. ACCEPTABLE_INTERESTING оставлен только для доставки сигнала, уже прошедшего
+ * проверку {@code isDisposed()}, после возврата из {@code dispose()}.
+ */
+@Tag("stress")
+class ConcurrencyStressTest {
+
+    /**
+     * Количество элементов, испускаемых источником в сценариях observeOn.
+     */
+    private static final int ITEMS = 8;
+
+    private static final Scheduler IO = new IOThreadScheduler();
+    private static final Scheduler COMPUTATION = new ComputationScheduler();
+    private static final Scheduler SINGLE = new SingleThreadScheduler();
+
+    @Test
+    @DisplayName("dispose конкурирует с onNext/onComplete в ObservableSubscribeProxy")
+    void testDisposeRacesWithEmission() {
+        Map<String, Long> histogram = StressHarness.<DisposeState>run(StressHarness.ITERATIONS,
+                DisposeState::new,
+                DisposeState::outcome,
+                DisposeState::emit,
+                DisposeState::dispose);
+
+        new StressHarness.Outcomes()
+                .acceptable("\\[(1(, 2(, C)?)?)?\\], afterDispose=none", "после возврата dispose сигналов нет")
+                .interesting("\\[1(, 2(, C)?)?\\], afterDispose=inFlight",
+                        "сигнал прошел проверку isDisposed до dispose и доставлен после его возврата")
+                .forbidden(".*, afterDispose=late", "сигнал, начатый после возврата dispose, доставлен")
+                .check("dispose vs onNext/onComplete", histogram);
+    }
+
+    @Test
+    @DisplayName("порядок и сериализация сигналов observeOn(SingleThreadScheduler)")
+    void testObserveOnSingleThread() {
+        observeOnOutcomes().check("observeOn(single)", runObserveOn(SINGLE));
+    }
+
+    @Test
+    @DisplayName("порядок и сериализация сигналов observeOn(ComputationScheduler)")
+    void testObserveOnComputation() {
+        observeOnOutcomes().check("observeOn(computation)", runObserveOn(COMPUTATION));
+    }
+
+    @Test
+    @DisplayName("порядок и сериализация сигналов observeOn(IOThreadScheduler)")
+    void testObserveOnIo() {
+        observeOnOutcomes().check("observeOn(io)", runObserveOn(IO));
+    }
+
+    @Test
+    @DisplayName("flatMap с асинхронными внутренними Observable")
+    void testFlatMapWithAsyncInner() {
+        Map<String, Long> histogram = StressHarness.<FlatMapState>run(StressHarness.ITERATIONS,
+                FlatMapState::new,
+                FlatMapState::outcome,
+                FlatMapState::subscribe);
+
+        new StressHarness.Outcomes()
+                .acceptable("items=4, completes=1, premature=false, overlapped=false, error=false",
+                        "сигналы сериализованы, onComplete один раз после всех элементов")
+                .forbidden("items=[0-3], .*", "потеряны элементы")
+                .forbidden(".*completes=0, .*", "onComplete потерян")
+                .forbidden(".*completes=([2-9]|\\d{2,}), .*", "onComplete вызван больше одного раза")
+                .forbidden(".*premature=true, .*", "onComplete раньше элементов")
+                .forbidden(".*overlapped=true, .*", "наблюдатель вызван одновременно из разных потоков")
+                .forbidden(".*error=true", "ошибка в операторе")
+                .check("flatMap + subscribeOn(io)", histogram);
+    }
+
+    private static StressHarness.Outcomes observeOnOutcomes() {
+        return new StressHarness.Outcomes()
+                .acceptable("ordered=true, overlapped=false, completeLast=true, error=false", "сигналы сериализованы")
+                .forbidden("ordered=false, .*", "элементы доставлены не по порядку")
+                .forbidden(".*overlapped=true, .*", "наблюдатель вызван одновременно из разных потоков")
+                .forbidden(".*completeLast=false, .*", "onComplete раньше элементов")
+                .forbidden(".*error=true", "ошибка в операторе");
+    }
+
+    private static Map<String, Long> runObserveOn(Scheduler scheduler) {
+        return StressHarness.<ObserveOnState>run(StressHarness.ITERATIONS,
+                () -> new ObserveOnState(scheduler),
+                ObserveOnState::outcome,
+                ObserveOnState::subscribe);
+    }
+
+    /**
+     * Ожидает завершения всех сигналов итерации.
+     */
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                fail("Сигналы не доставлены за 5 с, осталось: " + latch.getCount());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(e);
+        }
+    }
+
+    private static final class DisposeState {
+
+        private final ConcurrentLinkedQueue<String> received = new ConcurrentLinkedQueue<>();
+
+        /**
+         * Выставляется актором отмены после возврата из dispose.
+         */
+        private volatile boolean disposeReturned;
+
+        /**
+         * Начат ли текущий сигнал после возврата из dispose. Доступен только потоку испускания,
+         * в котором прокси синхронно вызывает наблюдателя.
+         */
+        private boolean signalStartedAfterDispose;
+
+        /**
+         * none, inFlight или late; пишется только в потоке испускания.
+         */
+        private String afterDispose = "none";
+
+        private final ObservableSubscribeProxy<Integer> proxy = new ObservableSubscribeProxy<>(new Observer<Integer>() {
+            @Override
+            public void onNext(Integer item) {
+                record(String.valueOf(item));
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                record("E");
+            }
+
+            @Override
+            public void onComplete() {
+                record("C");
+            }
+        });
+
+        void emit() {
+            signal(() -> proxy.onNext(1));
+            signal(() -> proxy.onNext(2));
+            signal(proxy::onComplete);
+        }
+
+        void dispose() {
+            proxy.dispose();
+            disposeReturned = true;
+        }
+
+        private void signal(Runnable signal) {
+            signalStartedAfterDispose = disposeReturned;
+            signal.run();
+        }
+
+        private void record(String signal) {
+            received.add(signal);
+            if (signalStartedAfterDispose) {
+                afterDispose = "late";
+            } else if (disposeReturned && afterDispose.equals("none")) {
+                afterDispose = "inFlight";
+            }
+        }
+
+        String outcome() {
+            return received + ", afterDispose=" + afterDispose;
+        }
+    }
+
+    private static final class ObserveOnState {
+
+        private final Scheduler scheduler;
+
+        private final ConcurrentLinkedQueue<Integer> received = new ConcurrentLinkedQueue<>();
+
+        private final OverlapDetector overlap = new OverlapDetector();
+
+        private final AtomicBoolean completeLast = new AtomicBoolean();
+
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        private final CountDownLatch done = new CountDownLatch(ITEMS + 1);
+
+        ObserveOnState(Scheduler scheduler) {
+            this.scheduler = scheduler;
+        }
+
+        void subscribe() {
+            Observable.<Integer>create(emitter -> {
+                        for (int i = 0; i < ITEMS; i++) {
+                            emitter.onNext(i);
+                        }
+                        emitter.onComplete();
+                    })
+                    .observeOn(scheduler)
+                    .subscribe(new Observer<Integer>() {
+                        @Override
+                        public void onNext(Integer item) {
+                            overlap.enter();
+                            received.add(item);
+                            overlap.exit();
+                            done.countDown();
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                            error.compareAndSet(null, t);
+                            while (done.getCount() > 0) {
+                                done.countDown();
+                            }
+                        }
+
+                        @Override
+                        public void onComplete() {
+                            overlap.enter();
+                            completeLast.set(received.size() == ITEMS);
+                            overlap.exit();
+                            done.countDown();
+                        }
+                    });
+        }
+
+
+        String outcome() {
+            await(done);
+            List<Integer> items = List.copyOf(received);
+            boolean ordered = items.size() == ITEMS;
+            for (int i = 0; ordered && i < ITEMS; i++) {
+                ordered = items.get(i) == i;
+            }
+            return "ordered=" + ordered + ", overlapped=" + overlap.overlapped() + ", completeLast=" + completeLast.get()
+                    + ", error=" + (error.get() != null);
+        }
+    }
+
+    private static final class FlatMapState {
+
+        private final AtomicInteger items = new AtomicInteger();
+
+        private final AtomicInteger completes = new AtomicInteger();
+
+        private final AtomicBoolean premature = new AtomicBoolean();
+
+        private final OverlapDetector overlap = new OverlapDetector();
+
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        /**
+         * Снимается, когда каждый внутренний источник вернул управление из onComplete,
+         * или сразу при ошибке.
+         */
+        private final CountDownLatch innerDone = new CountDownLatch(2);
+
+        void subscribe() {
+            Observable.<Integer>create(emitter -> {
+                        emitter.onNext(1);
+                        emitter.onNext(2);
+                        emitter.onComplete();
+                    })
+                    .flatMap((Function<Integer, Observable<Integer>>) x -> Observable.<Integer>create(emitter -> {
+                        emitter.onNext(x * 10);
+                        emitter.onNext(x * 20);
+                        emitter.onComplete();
+                        innerDone.countDown();
+                    }).subscribeOn(IO))
+                    .subscribe(new Observer<Integer>() {
+                        @Override
+                        public void onNext(Integer item) {
+                            overlap.enter();
+                            items.incrementAndGet();
+                            overlap.exit();
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                            error.compareAndSet(null, t);
+                            while (innerDone.getCount() > 0) {
+                                innerDone.countDown();
+                            }
+                        }
+
+                        @Override
+                        public void onComplete() {
+                            overlap.enter();
+                            if (items.get() < 4) {
+                                premature.set(true);
+                            }
+                            completes.incrementAndGet();
+                            overlap.exit();
+                        }
+                    });
+        }
+
+        String outcome() {
+            await(innerDone);
+            return "items=" + items.get() + ", completes=" + completes.get() + ", premature=" + premature.get()
+                    + ", overlapped=" + overlap.overlapped() + ", error=" + (error.get() != null);
+        }
+    }
+
+    /**
+     * Отмечает одновременные вызовы наблюдателя из разных потоков.
+     */
+    private static final class OverlapDetector {
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private final AtomicBoolean overlapped = new AtomicBoolean();
+
+        void enter() {
+            if (inFlight.incrementAndGet() > 1) {
+                overlapped.set(true);
+            }
+        }
+
+        void exit() {
+            inFlight.decrementAndGet();
+        }
+
+        boolean overlapped() {
+            return overlapped.get();
+        }
+    }
+}
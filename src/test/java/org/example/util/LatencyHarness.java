@@ -0,0 +1,147 @@
+package org.example.util;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Измеряет сквозную задержку конвейера {@code subscribeOn} + {@code observeOn}.
+ * <p>
+ * Нагрузка подается по открытой модели с постоянной частотой: у каждого запроса есть
+ * запланированное время старта, и задержка отсчитывается от него, а не от фактической
+ * отправки. Если генератор отстал из-за пауз JVM или перегруженного планировщика,
+ * отставание попадает в измерения, и coordinated omission не занижает хвосты.
+ */
+final class LatencyHarness {
+
+    /**
+     * Если до запланированного времени осталось меньше, генератор крутится без парковки.
+     */
+    private static final long SPIN_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private LatencyHarness() {
+    }
+
+    /**
+     * Подает нагрузку и ждет доставки всех элементов.
+     *
+     * @param subscribeOn планировщик подписки
+     * @param observeOn планировщик доставки
+     * @param ratePerSecond частота запросов
+     * @param warmup количество запросов прогрева, не попадающих в результат
+     * @param requests количество измеряемых запросов
+     * @param timeoutSeconds сколько ждать доставки после отправки последнего запроса
+     * @return распределение задержек измеряемых запросов
+     */
+    static Result run(Scheduler subscribeOn, Scheduler observeOn, int ratePerSecond,
+                      int warmup, int requests, long timeoutSeconds) throws InterruptedException {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("Частота запросов должна быть положительной: " + ratePerSecond);
+        }
+        if (requests <= 0) {
+            throw new IllegalArgumentException("Количество измеряемых запросов должно быть положительным: " + requests);
+        }
+        if (warmup < 0) {
+            throw new IllegalArgumentException("Количество запросов прогрева не может быть отрицательным: " + warmup);
+        }
+        int total = warmup + requests;
+        long period = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long[] latencies = new long[total];
+        CountDownLatch done = new CountDownLatch(total);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        long start = System.nanoTime() + period;
+        for (int i = 0; i < total; i++) {
+            int index = i;
+            long intended = start + i * period;
+            waitUntil(intended);
+            Observable.<Integer>create(emitter -> {
+                        emitter.onNext(index);
+                        emitter.onComplete();
+                    })
+                    .subscribeOn(subscribeOn)
+                    .observeOn(observeOn)
+                    .subscribe(new Observer<Integer>() {
+                        @Override
+                        public void onNext(Integer item) {
+                            latencies[index] = System.nanoTime() - intended;
+                            done.countDown();
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                            failure.compareAndSet(null, t);
+                            done.countDown();
+                        }
+
+                        @Override
+                        public void onComplete() {
+                        }
+                    });
+        }
+
+        if (!done.await(timeoutSeconds, TimeUnit.SECONDS)) {
+            throw new AssertionError("Не доставлено " + done.getCount() + " из " + total + " элементов");
+        }
+        if (failure.get() != null) {
+            throw new AssertionError("Конвейер завершился с ошибкой", failure.get());
+        }
+        return new Result(Arrays.copyOfRange(latencies, warmup, total));
+    }
+
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * Распределение задержек в наносекундах.
+     */
+    static final class Result {
+
+        private final long[] sorted;
+
+        Result(long[] latencies) {
+            this.sorted = latencies.clone();
+            Arrays.sort(sorted);
+        }
+
+        /**
+         * Перцентиль по методу ближайшего ранга.
+         *
+         * @param quantile доля от 0 до 1
+         * @return задержка в наносекундах
+         */
+        long percentile(double quantile) {
+            int rank = (int) Math.ceil(quantile * sorted.length);
+            return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+        }
+
+        long max() {
+            return sorted[sorted.length - 1];
+        }
+
+        int count() {
+            return sorted.length;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("n=%d p50=%.1fus p99=%.1fus p999=%.1fus max=%.1fus",
+                    count(), micros(percentile(0.5)), micros(percentile(0.99)),
+                    micros(percentile(0.999)), micros(max()));
+        }
+
+        private static double micros(long nanos) {
+            return nanos / 1_000.0;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сквозная задержка конвейеров {@code subscribeOn} + {@code observeOn} для каждой пары
+ * планировщиков. Запускается задачей {@code stressTest}; параметры нагрузки задаются
+ * свойствами {@code latency.*}.
+ */
+@Tag("stress")
+class SchedulerLatencyTest {
+
+    private static final int RATE = Integer.getInteger("latency.rate", 5_000);
+    private static final int WARMUP = Integer.getInteger("latency.warmup", 5_000);
+    private static final int REQUESTS = Integer.getInteger("latency.requests", 20_000);
+
+    /**
+     * Необязательный бюджет на p99 в микросекундах; без него тест только печатает отчет.
+     */
+    private static final Long P99_BUDGET_MICROS = Long.getLong("latency.p99BudgetMicros");
+
+    /**
+     * Планировщики создаются один раз: их пулы потоков не останавливаются.
+     */
+    private static final Map<String, Scheduler> SCHEDULERS = new LinkedHashMap<>();
+
+    static {
+        SCHEDULERS.put("io", new IOThreadScheduler());
+        SCHEDULERS.put("computation", new ComputationScheduler());
+        SCHEDULERS.put("single", new SingleThreadScheduler());
+    }
+
+    static Stream<Arguments> schedulerPairs() {
+        List<Arguments> pairs = new ArrayList<>();
+        SCHEDULERS.keySet().forEach(subscribeOn -> SCHEDULERS.keySet()
+                .forEach(observeOn -> pairs.add(Arguments.of(subscribeOn, observeOn))));
+        return pairs.stream();
+    }
+
+    @ParameterizedTest(name = "subscribeOn({0}) + observeOn({1})")
+    @MethodSource("schedulerPairs")
+    void testEndToEndLatency(String subscribeOn, String observeOn) throws InterruptedException {
+        LatencyHarness.Result result = LatencyHarness.run(SCHEDULERS.get(subscribeOn), SCHEDULERS.get(observeOn),
+                RATE, WARMUP, REQUESTS, 30);
+
+        System.out.printf("[latency] subscribeOn(%s) + observeOn(%s) @ %d/s: %s%n",
+                subscribeOn, observeOn, RATE, result);
+
+        if (P99_BUDGET_MICROS != null) {
+            long p99Micros = TimeUnit.NANOSECONDS.toMicros(result.percentile(0.99));
+            assertTrue(p99Micros <= P99_BUDGET_MICROS,
+                    "p99 " + p99Micros + "us превышает бюджет " + P99_BUDGET_MICROS + "us");
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package org.example.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Упрощенный аналог jcstress: многократно запускает акторов над свежим состоянием
+ * и собирает гистограмму исходов, которые затем сверяются с ожиданиями.
+ */
+final class StressHarness {
+
+    /**
+     * Количество итераций по умолчанию, переопределяется свойством {@code stress.iterations}.
+     */
+    static final int ITERATIONS = Integer.getInteger("stress.iterations", 10_000);
+
+    /**
+     * Максимальное время ожидания одной итерации.
+     */
+    private static final long ITERATION_TIMEOUT_SECONDS = 10;
+
+    /**
+     * Сколько раз актор крутится в ожидании остальных, прежде чем уступить процессор.
+     */
+    private static final int SPINS_BEFORE_YIELD = 1_000;
+
+    /**
+     * Верхняя граница случайной задержки перед действием актора.
+     */
+    private static final int MAX_JITTER_SPINS = 16;
+
+    private StressHarness() {
+    }
+
+    /**
+     * Классификация исхода, как в jcstress.
+     */
+    enum Expect {
+        ACCEPTABLE,
+        ACCEPTABLE_INTERESTING,
+        FORBIDDEN
+    }
+
+    /**
+     * Прогоняет акторов заданное число раз. Каждый актор работает в собственном потоке,
+     * все акторы одной итерации стартуют одновременно над одним экземпляром состояния.
+     * <p>
+     * Барьер только раздает состояние: он будит потоки по одному, и разброс их пробуждения
+     * на порядки больше длительности самих действий. Поэтому после барьера акторы сходятся
+     * на активном ожидании общего счетчика, а затем выжидают случайные несколько циклов,
+     * чтобы перебрать разные взаимные сдвиги.
+     *
+     * @param iterations количество итераций
+     * @param state фабрика состояния, вызывается перед каждой итерацией
+     * @param arbiter вычисляет исход после завершения всех акторов итерации
+     * @param actors действия, выполняемые конкурентно
+     * @return количество появлений каждого исхода
+     * @param <S>
+     */
+    @SafeVarargs
+    static <S> Map<String, Long> run(int iterations, Supplier<S> state, Function<S, String> arbiter,
+                                     Consumer<S>... actors) {
+        CyclicBarrier start = new CyclicBarrier(actors.length + 1);
+        CyclicBarrier end = new CyclicBarrier(actors.length + 1);
+        AtomicReference<S> current = new AtomicReference<>();
+        AtomicLong arrived = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int a = 0; a < actors.length; a++) {
+            Consumer<S> actor = actors[a];
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < iterations; i++) {
+                    if (!await(start)) {
+                        return;
+                    }
+                    S instance = current.get();
+                    rendezvous(arrived, (long) (i + 1) * actors.length);
+                    jitter();
+                    try {
+                        actor.accept(instance);
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    }
+                    if (!await(end)) {
+                        return;
+                    }
+                }
+            }, "stress-actor-" + a);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+
+        Map<String, Long> histogram = new TreeMap<>();
+        try {
+            for (int i = 0; i < iterations; i++) {
+                current.set(state.get());
+                if (!await(start) || !await(end)) {
+                    fail("Итерация " + i + " не завершилась за " + ITERATION_TIMEOUT_SECONDS + " с");
+                }
+                if (failure.get() != null) {
+                    fail("Актор завершился с ошибкой на итерации " + i, failure.get());
+                }
+                histogram.merge(arbiter.apply(current.get()), 1L, Long::sum);
+            }
+        } finally {
+            threads.forEach(Thread::interrupt);
+        }
+        return histogram;
+    }
+
+    /**
+     * Активно ждет, пока счетчик прибывших акторов не достигнет цели итерации.
+     */
+    private static void rendezvous(AtomicLong arrived, long target) {
+        arrived.incrementAndGet();
+        int spins = 0;
+        while (arrived.get() < target) {
+            if (++spins % SPINS_BEFORE_YIELD == 0) {
+                Thread.yield();
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private static void jitter() {
+        for (int i = ThreadLocalRandom.current().nextInt(MAX_JITTER_SPINS); i > 0; i--) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static boolean await(CyclicBarrier barrier) {
+        try {
+            barrier.await(ITERATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            barrier.reset();
+            return false;
+        } catch (BrokenBarrierException | TimeoutException e) {
+            barrier.reset();
+            return false;
+        }
+    }
+
+    /**
+     * Набор ожидаемых исходов. Исходы задаются регулярными выражениями и проверяются
+     * в порядке объявления; исход, не подошедший ни под одно выражение, запрещен.
+     */
+    static final class Outcomes {
+
+        private final Map<String, Expect> expectations = new LinkedHashMap<>();
+
+        private final Map<String, String> descriptions = new LinkedHashMap<>();
+
+        Outcomes acceptable(String regex, String description) {
+            return expect(regex, Expect.ACCEPTABLE, description);
+        }
+
+        Outcomes interesting(String regex, String description) {
+            return expect(regex, Expect.ACCEPTABLE_INTERESTING, description);
+        }
+
+        Outcomes forbidden(String regex, String description) {
+            return expect(regex, Expect.FORBIDDEN, description);
+        }
+
+        private Outcomes expect(String regex, Expect expect, String description) {
+            expectations.put(regex, expect);
+            descriptions.put(regex, description);
+            return this;
+        }
+
+        /**
+         * Печатает гистограмму и падает, если встретился запрещенный исход.
+         *
+         * @param name название сценария для отчета
+         * @param histogram результат {@link StressHarness#run}
+         */
+        void check(String name, Map<String, Long> histogram) {
+            StringBuilder report = new StringBuilder("[stress] ").append(name).append('\n');
+            List<String> forbidden = new ArrayList<>();
+            histogram.forEach((outcome, count) -> {
+                String regex = match(outcome);
+                Expect expect = regex == null ? Expect.FORBIDDEN : expectations.get(regex);
+                String description = regex == null ? "неожиданный исход" : descriptions.get(regex);
+                report.append(String.format("  %-72s %10d  %-22s %s%n", outcome, count, expect, description));
+                if (expect == Expect.FORBIDDEN) {
+                    forbidden.add(outcome);
+                }
+            });
+            System.out.print(report);
+            if (!forbidden.isEmpty()) {
+                fail("Запрещенные исходы в сценарии '" + name + "': " + forbidden + "\n" + report);
+            }
+        }
+
+        private String match(String outcome) {
+            for (String regex : expectations.keySet()) {
+                if (outcome.matches(regex)) {
+                    return regex;
+                }
+            }
+            return null;
+        }
+    }
+}